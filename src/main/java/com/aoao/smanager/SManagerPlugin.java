@@ -2,12 +2,15 @@ package com.aoao.smanager;
 
 import com.aoao.smanager.monitor.MetricsCollector;
 import com.aoao.smanager.monitor.MetricsSnapshot;
+import com.aoao.smanager.web.StaticAssets;
 import com.aoao.smanager.web.WebServer;
+import com.aoao.smanager.web.WebServerOptions;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.plugin.java.JavaPlugin;
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -16,36 +19,142 @@ public class SManagerPlugin extends JavaPlugin {
     private MetricsCollector collector;
     private ScheduledTask task;
     private WebServer webServer;
-    private long intervalMs;
-    private int port;
-    private String apiToken;
+    private volatile StaticAssets staticAssets;
+    private final Object stateLock = new Object();
+    private final Object restartLock = new Object();
+    private volatile boolean shuttingDown;
+    private volatile long intervalMs;
+    private volatile WebServerOptions webOptions;
+    private volatile String apiToken;
 
     @Override
     public void onEnable() {
+        long begin = System.nanoTime();
+        shuttingDown = false;
         saveDefaultConfig();
         loadConfigValues();
         collector = new MetricsCollector();
-        snapshot.set(collector.sample());
-        task = getServer().getAsyncScheduler().runAtFixedRate(this, scheduledTask -> snapshot.set(collector.sample()), intervalMs, intervalMs, TimeUnit.MILLISECONDS);
-        webServer = new WebServer(this::currentSnapshotJson, port, apiToken, this.getSLF4JLogger());
-        webServer.start();
+        // Undertow 启动与首次 OSHI 采样都放到异步线程，主线程只做配置读取
+        getServer().getAsyncScheduler().runNow(this, scheduledTask -> warmUp());
+        getSLF4JLogger().info("SManager enabled in {} ms (main thread)", elapsedMillis(begin));
     }
 
     @Override
     public void onDisable() {
+        WebServer running;
+        synchronized (stateLock) {
+            shuttingDown = true;
+            if (task != null) task.cancel();
+            task = null;
+            running = webServer;
+            webServer = null;
+        }
+        if (running != null) running.stop();
+        getServer().getAsyncScheduler().cancelTasks(this);
+    }
+
+    private void warmUp() {
+        long begin = System.nanoTime();
+        if (shuttingDown) return;
+        tryRestartWebServer();
+        long webMs = elapsedMillis(begin);
+        // Undertow 启动期间可能已被禁用，此时不要再在插件类加载器关闭后加载 JNA/OSHI
+        if (shuttingDown) return;
+        try {
+            snapshot.set(collector.sample());
+        } catch (Exception e) {
+            getSLF4JLogger().error("SManager initial sampling failed", e);
+        }
+        synchronized (stateLock) {
+            if (shuttingDown) return;
+            scheduleSampling();
+        }
+        getSLF4JLogger().info("SManager warm-up finished in {} ms (web server {} ms, first sample {} ms)",
+                elapsedMillis(begin), webMs, elapsedMillis(begin) - webMs);
+    }
+
+    private void tryRestartWebServer() {
+        try {
+            restartWebServer();
+        } catch (Exception e) {
+            getSLF4JLogger().error("SManager web server failed to start on port " + webOptions.port, e);
+        }
+    }
+
+    /**
+     * 停止旧实例并启动新实例。Undertow 启动（首次还包括静态资源预压缩）较慢，只在 restartLock 下进行，
+     * stateLock 仅用于发布结果，主线程 onDisable 不会被启动过程阻塞。
+     * 代价是 onDisable 不等待进行中的重启：快速禁用再启用时，旧实例可能尚未释放端口，新实例会绑定失败并记录错误。
+     */
+    private void restartWebServer() {
+        synchronized (restartLock) {
+            WebServer old;
+            synchronized (stateLock) {
+                if (shuttingDown) return;
+                old = webServer;
+                webServer = null;
+            }
+            if (old != null) old.stop();
+            if (staticAssets == null) {
+                try {
+                    staticAssets = new StaticAssets();
+                } catch (IOException e) {
+                    getSLF4JLogger().error("SManager failed to load dashboard assets", e);
+                }
+            }
+            WebServer created = new WebServer(this::currentSnapshotJson, () -> snapshot.get() != null, staticAssets, webOptions, apiToken, this.getSLF4JLogger());
+            try {
+                created.start();
+            } catch (RuntimeException e) {
+                created.stop();
+                throw e;
+            }
+            synchronized (stateLock) {
+                if (!shuttingDown) {
+                    webServer = created;
+                    return;
+                }
+            }
+            created.stop();
+        }
+    }
+
+    private void scheduleSampling() {
         if (task != null) task.cancel();
-        if (webServer != null) webServer.stop();
+        task = getServer().getAsyncScheduler().runAtFixedRate(this, scheduledTask -> snapshot.set(collector.sample()), intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static long elapsedMillis(long beginNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - beginNanos);
     }
 
     private void loadConfigValues() {
         intervalMs = getConfig().getLong("monitor.intervalMillis", 1000);
-        port = getConfig().getInt("web.port", 25566);
+        WebServerOptions o = new WebServerOptions();
+        o.host = getConfig().getString("web.host", o.host);
+        o.port = getConfig().getInt("web.port", o.port);
+        o.ioThreads = clampConfig("web.ioThreads", o.ioThreads, 0, 256);
+        o.workerThreads = clampConfig("web.workerThreads", o.workerThreads, 0, 4096);
+        o.bufferSize = clampConfig("web.bufferSize", o.bufferSize, 1024, 1024 * 1024);
+        o.directBuffers = getConfig().getBoolean("web.directBuffers", o.directBuffers);
+        o.http2 = getConfig().getBoolean("web.http2.enabled", o.http2);
+        o.http2MaxConcurrentStreams = clampConfig("web.http2.maxConcurrentStreams", o.http2MaxConcurrentStreams, 1, 10000);
+        webOptions = o;
         apiToken = getConfig().getString("auth.token", "");
     }
 
+    private int clampConfig(String path, int def, int min, int max) {
+        int value = getConfig().getInt(path, def);
+        if (value >= min && value <= max) return value;
+        int clamped = Math.max(min, Math.min(max, value));
+        getSLF4JLogger().warn("Config {}={} is out of range [{}, {}], using {}", path, value, min, max, clamped);
+        return clamped;
+    }
+
     private String currentSnapshotJson() {
         MetricsSnapshot s = snapshot.get();
-        return MetricsSnapshot.toJson(s);
+        // 首次采样完成前返回 null，由 WebServer 响应预热状态
+        return s == null ? null : MetricsSnapshot.toJson(s);
     }
 
     @Override
@@ -58,13 +167,13 @@ public class SManagerPlugin extends JavaPlugin {
                 }
                 reloadConfig();
                 loadConfigValues();
-                if (task != null) task.cancel();
-                task = getServer().getAsyncScheduler().runAtFixedRate(this, scheduledTask -> snapshot.set(collector.sample()), intervalMs, intervalMs, TimeUnit.MILLISECONDS);
-                if (webServer != null) {
-                    webServer.stop();
-                    webServer = new WebServer(this::currentSnapshotJson, port, apiToken, this.getSLF4JLogger());
-                    webServer.start();
-                }
+                // 重启 Undertow 同样会阻塞，交给异步线程；预热尚未调度采样时由 warmUp 使用新间隔
+                getServer().getAsyncScheduler().runNow(this, scheduledTask -> {
+                    tryRestartWebServer();
+                    synchronized (stateLock) {
+                        if (!shuttingDown && task != null) scheduleSampling();
+                    }
+                });
                 sender.sendMessage("SManager reloaded");
                 return true;
             }
@@ -12,16 +12,18 @@ import java.util.List;
 import java.util.Arrays;
 
 public class MetricsCollector {
-    private final SystemInfo si = new SystemInfo();
-    private final HardwareAbstractionLayer hal = si.getHardware();
-    private long[] prevCpuTicks = hal.getProcessor().getSystemCpuLoadTicks();
+    // OSHI 句柄（加载 JNA、枚举 CPU tick）开销较大，延迟到首次采样时在异步线程中创建
+    private SystemInfo si;
+    private HardwareAbstractionLayer hal;
+    private long[] prevCpuTicks;
     private long prevDiskRead = 0;
     private long prevDiskWrite = 0;
     private long prevNetRecv = 0;
     private long prevNetSend = 0;
     private long prevTime = System.nanoTime();
 
-    public MetricsSnapshot sample() {
+    public synchronized MetricsSnapshot sample() {
+        ensureInitialized();
         GlobalMemory mem = hal.getMemory();
         CentralProcessor cpu = hal.getProcessor();
         double cpuLoad = cpu.getSystemCpuLoadBetweenTicks(prevCpuTicks);
@@ -81,4 +83,12 @@ public class MetricsCollector {
         s.timestamp = System.currentTimeMillis();
         return s;
     }
+
+    private void ensureInitialized() {
+        if (si != null) return;
+        si = new SystemInfo();
+        hal = si.getHardware();
+        prevCpuTicks = hal.getProcessor().getSystemCpuLoadTicks();
+        prevTime = System.nanoTime();
+    }
 }
@@ -0,0 +1,262 @@
+package com.aoao.smanager.web;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import io.undertow.util.StatusCodes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 插件启动时把 web/ 下的全部静态资源一次性读入直接内存，并预先生成 gzip 版本；实例在重载间复用。
+ * 非 HTML 资源以带内容指纹的 URL 提供并标记为 immutable，HTML 中的引用会被改写，HTML 本身每次协商缓存。
+ */
+public class StaticAssets implements HttpHandler {
+    private static final String ROOT = "web/";
+    private static final String INDEX = "index.html";
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "no-cache";
+
+    private final Map<String, Route> routes = new HashMap<>();
+
+    public StaticAssets() throws IOException {
+        Map<String, byte[]> files = readResources();
+        if (!files.containsKey(INDEX)) throw new IOException("Missing web resource: " + ROOT + INDEX);
+        Map<String, String> rewrites = new HashMap<>();
+        List<String> pages = new ArrayList<>();
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            String name = file.getKey();
+            if (name.endsWith(".html")) {
+                pages.add(name);
+                continue;
+            }
+            byte[] raw = file.getValue();
+            String hash = hash(raw);
+            String fingerprinted = fingerprint(name, hash);
+            rewrites.put(name, fingerprinted);
+            Asset asset = new Asset(raw, hash, contentType(name));
+            routes.put(fingerprinted, new Route(asset, IMMUTABLE));
+            // 保留原始 URL，兼容直接引用旧路径的页面，与指纹 URL 共享缓冲区，只是不能长期缓存
+            routes.put(name, new Route(asset, REVALIDATE));
+        }
+        for (String page : pages) {
+            String html = new String(files.get(page), StandardCharsets.UTF_8);
+            for (Map.Entry<String, String> e : rewrites.entrySet()) {
+                for (String quote : new String[]{"\"", "'"}) {
+                    html = html.replace(quote + "/" + e.getKey() + quote, quote + "/" + e.getValue() + quote);
+                    html = html.replace(quote + e.getKey() + quote, quote + e.getValue() + quote);
+                }
+            }
+            byte[] data = html.getBytes(StandardCharsets.UTF_8);
+            routes.put(page, new Route(new Asset(data, hash(data), contentType(page)), REVALIDATE));
+        }
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) {
+        boolean head = Methods.HEAD.equals(exchange.getRequestMethod());
+        if (!head && !Methods.GET.equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().put(Headers.ALLOW, "GET, HEAD");
+            exchange.setStatusCode(StatusCodes.METHOD_NOT_ALLOWED);
+            exchange.endExchange();
+            return;
+        }
+        String path = exchange.getRelativePath();
+        if (path.startsWith("/")) path = path.substring(1);
+        Route route = routes.get(path.isEmpty() ? INDEX : path);
+        if (route == null) {
+            exchange.setStatusCode(StatusCodes.NOT_FOUND);
+            exchange.endExchange();
+            return;
+        }
+
+        Asset asset = route.asset;
+        boolean gzip = acceptsGzip(exchange.getRequestHeaders().getFirst(Headers.ACCEPT_ENCODING));
+        String etag = gzip ? asset.gzipEtag : asset.etag;
+        exchange.getResponseHeaders().put(Headers.CACHE_CONTROL, route.cacheControl);
+        exchange.getResponseHeaders().put(Headers.VARY, Headers.ACCEPT_ENCODING_STRING);
+        exchange.getResponseHeaders().put(Headers.ETAG, etag);
+        if (matches(exchange.getRequestHeaders().getFirst(Headers.IF_NONE_MATCH), etag)) {
+            exchange.setStatusCode(StatusCodes.NOT_MODIFIED);
+            exchange.endExchange();
+            return;
+        }
+
+        ByteBuffer body = gzip ? asset.gzip : asset.raw;
+        exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, asset.contentType);
+        if (gzip) exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, "gzip");
+        exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, body.remaining());
+        exchange.setStatusCode(StatusCodes.OK);
+        if (head) {
+            exchange.endExchange();
+            return;
+        }
+        // duplicate() 共享底层直接内存，各请求只持有独立的读位置
+        exchange.getResponseSender().send(body.duplicate());
+    }
+
+    private static boolean acceptsGzip(String header) {
+        if (header == null) return false;
+        double gzipQ = -1;
+        double anyQ = -1;
+        for (String part : header.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.equals("gzip") && !coding.equals("*")) continue;
+            double q = 1;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException ignored) {
+                    }
+                }
+            }
+            if (coding.equals("gzip")) gzipQ = q;
+            else anyQ = q;
+        }
+        // 显式的 gzip 优先，未列出 gzip 时才看 *
+        return gzipQ >= 0 ? gzipQ > 0 : anyQ > 0;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            // If-None-Match 使用弱比较，忽略 W/ 前缀
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals("*") || c.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 读取插件 jar（或开发环境 classes 目录）中 web/ 下的全部文件，键为相对 web/ 的路径。
+     * 列举与读取都直接基于本类所在的代码源，ClassLoader 无法列举目录内容。
+     */
+    private static Map<String, byte[]> readResources() throws IOException {
+        Map<String, byte[]> files = new HashMap<>();
+        Path location;
+        try {
+            location = Paths.get(StaticAssets.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Cannot locate plugin archive", e);
+        }
+        if (Files.isDirectory(location)) {
+            Path root = location.resolve(ROOT);
+            if (!Files.isDirectory(root)) return files;
+            try (Stream<Path> paths = Files.walk(root)) {
+                for (Path f : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                    files.put(root.relativize(f).toString().replace('\\', '/'), Files.readAllBytes(f));
+                }
+            }
+        } else {
+            try (JarFile jar = new JarFile(location.toFile())) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    if (entry.isDirectory() || !entry.getName().startsWith(ROOT)) continue;
+                    try (InputStream in = jar.getInputStream(entry)) {
+                        files.put(entry.getName().substring(ROOT.length()), in.readAllBytes());
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    private static String fingerprint(String name, String hash) {
+        int slash = name.lastIndexOf('/');
+        int dot = name.lastIndexOf('.');
+        if (dot <= slash) return name + "." + hash.substring(0, 12);
+        return name.substring(0, dot) + "." + hash.substring(0, 12) + name.substring(dot);
+    }
+
+    private static String hash(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String contentType(String name) {
+        if (name.endsWith(".html")) return "text/html;charset=utf-8";
+        if (name.endsWith(".js")) return "application/javascript;charset=utf-8";
+        if (name.endsWith(".css")) return "text/css;charset=utf-8";
+        if (name.endsWith(".json")) return "application/json;charset=utf-8";
+        if (name.endsWith(".svg")) return "image/svg+xml";
+        if (name.endsWith(".png")) return "image/png";
+        if (name.endsWith(".ico")) return "image/x-icon";
+        if (name.endsWith(".woff2")) return "font/woff2";
+        return "application/octet-stream";
+    }
+
+    private static ByteBuffer direct(byte[] data) {
+        ByteBuffer buf = ByteBuffer.allocateDirect(data.length);
+        buf.put(data).flip();
+        return buf.asReadOnlyBuffer();
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 3 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gz.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class Asset {
+        final ByteBuffer raw;
+        final ByteBuffer gzip;
+        final String etag;
+        final String gzipEtag;
+        final String contentType;
+
+        Asset(byte[] data, String hash, String contentType) throws IOException {
+            this.raw = direct(data);
+            this.gzip = direct(gzip(data));
+            this.etag = "\"" + hash + "\"";
+            this.gzipEtag = "\"" + hash + "-gz\"";
+            this.contentType = contentType;
+        }
+    }
+
+    private static final class Route {
+        final Asset asset;
+        final String cacheControl;
+
+        Route(Asset asset, String cacheControl) {
+            this.asset = asset;
+            this.cacheControl = cacheControl;
+        }
+    }
+}
@@ -4,11 +4,10 @@ import com.aoao.smanager.file.FileManager;
 import com.aoao.smanager.monitor.MetricsSnapshot;
 import io.undertow.Handlers;
 import io.undertow.Undertow;
+import io.undertow.UndertowOptions;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.PathHandler;
-import io.undertow.server.handlers.resource.ClassPathResourceManager;
-import io.undertow.server.handlers.resource.ResourceHandler;
 import io.undertow.util.Headers;
 import io.undertow.util.StatusCodes;
 import io.undertow.websockets.WebSocketConnectionCallback;
@@ -17,8 +16,6 @@ import io.undertow.websockets.core.WebSockets;
 import io.undertow.websockets.spi.WebSocketHttpExchange;
 import org.slf4j.Logger;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.Collections;
@@ -29,11 +26,15 @@ import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 public class WebServer {
+    private static final String WARMING_UP_JSON = "{\"warmingUp\":true}";
     private final Supplier<String> jsonSupplier;
-    private final int port;
+    private final BooleanSupplier ready;
+    private final WebServerOptions options;
+    private final StaticAssets staticAssets;
     private final String token;
     private final Logger logger;
     private final FileManager fileManager;
@@ -41,21 +42,27 @@ public class WebServer {
     private final Set<WebSocketChannel> channels = Collections.synchronizedSet(new HashSet<>());
     private ScheduledExecutorService scheduler;
 
-    public WebServer(Supplier<String> jsonSupplier, int port, String token, Logger logger) {
+    public WebServer(Supplier<String> jsonSupplier, BooleanSupplier ready, StaticAssets staticAssets, WebServerOptions options, String token, Logger logger) {
         this.jsonSupplier = jsonSupplier;
-        this.port = port;
+        this.ready = ready;
+        this.staticAssets = staticAssets;
+        this.options = options;
         this.token = token == null ? "" : token.trim();
         this.logger = logger;
         this.fileManager = new FileManager(logger);
     }
 
     public void start() {
-        ClassPathResourceManager resources = new ClassPathResourceManager(getClass().getClassLoader(), "web");
-        ResourceHandler staticHandler = new ResourceHandler(resources).addWelcomeFiles("index.html");
         HttpHandler apiMetrics = exchange -> {
             if (!authorize(exchange)) return;
             String json = jsonSupplier.get();
             exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "application/json;charset=utf-8");
+            if (json == null) {
+                exchange.getResponseHeaders().put(Headers.RETRY_AFTER, "1");
+                exchange.setStatusCode(StatusCodes.SERVICE_UNAVAILABLE);
+                exchange.getResponseSender().send(WARMING_UP_JSON);
+                return;
+            }
             exchange.setStatusCode(StatusCodes.OK);
             exchange.getResponseSender().send(json);
         };
@@ -132,9 +139,13 @@ public class WebServer {
                 .addPrefixPath("/api/files/create", apiFileCreate)
                 .addPrefixPath("/api/files/delete", apiFileDelete)
                 .addPrefixPath("/api/files/rename", apiFileRename)
-                .addPrefixPath("/", staticHandler)
                 .addExactPath("/api/health", exchange -> {
                     if (!authorize(exchange)) return;
+                    if (!ready.getAsBoolean()) {
+                        exchange.setStatusCode(StatusCodes.SERVICE_UNAVAILABLE);
+                        exchange.getResponseSender().send("warming up");
+                        return;
+                    }
                     exchange.setStatusCode(StatusCodes.OK);
                     exchange.getResponseSender().send("ok");
                 });
@@ -153,9 +164,19 @@ public class WebServer {
                 channel.resumeReceives();
             }
         };
+        if (staticAssets != null) path.addPrefixPath("/", staticAssets);
         path.addPrefixPath("/ws", Handlers.websocket(wsCallback));
+        int ioThreads = options.resolvedIoThreads();
+        int workerThreads = options.resolvedWorkerThreads();
         server = Undertow.builder()
-                .addHttpListener(port, "0.0.0.0")
+                .addHttpListener(options.port, options.host)
+                .setIoThreads(ioThreads)
+                .setWorkerThreads(workerThreads)
+                .setBufferSize(options.bufferSize)
+                .setDirectBuffers(options.directBuffers)
+                // 开启后明文监听器接受 h2c 升级，同一连接上多路复用请求；WebSocket 仍走 HTTP/1.1 升级
+                .setServerOption(UndertowOptions.ENABLE_HTTP2, options.http2)
+                .setServerOption(UndertowOptions.HTTP2_SETTINGS_MAX_CONCURRENT_STREAMS, options.http2MaxConcurrentStreams)
                 .setHandler(path)
                 .build();
         server.start();
@@ -165,7 +186,8 @@ public class WebServer {
             return t;
         });
         scheduler.scheduleAtFixedRate(this::broadcast, 1, 1, TimeUnit.SECONDS);
-        logger.info("SManager web server on " + port);
+        logger.info("SManager web server on " + options.host + ":" + options.port
+                + " (io=" + ioThreads + ", worker=" + workerThreads + ", http2=" + options.http2 + ")");
     }
 
     public void stop() {
@@ -188,7 +210,9 @@ public class WebServer {
     }
 
     private void broadcast() {
-        String json = jsonSupplier.get();
+        // 预热期间同样推送，让只走 WebSocket 的仪表板能显示预热状态
+        String json = ready.getAsBoolean() ? jsonSupplier.get() : null;
+        if (json == null) json = WARMING_UP_JSON;
         synchronized (channels) {
             for (WebSocketChannel c : channels) {
                 try {
@@ -0,0 +1,28 @@
+package com.aoao.smanager.web;
+
+/**
+ * Undertow 监听器与线程池参数，对应 config.yml 中的 web 节点。
+ * 线程数为 0 时沿用 Undertow 默认公式（io = max(核数, 2)，worker = io × 8），
+ * 但 IO 线程最多 4 个，避免在多核机器上与游戏服务器争抢线程；小机器上不会少于 Undertow 默认值。
+ */
+public class WebServerOptions {
+    public String host = "0.0.0.0";
+    public int port = 25566;
+    public int ioThreads = 0;
+    public int workerThreads = 0;
+    public int bufferSize = 16 * 1024;
+    public boolean directBuffers = true;
+    public boolean http2 = true;
+    public int http2MaxConcurrentStreams = 100;
+
+    int resolvedIoThreads() {
+        if (ioThreads > 0) return ioThreads;
+        int cores = Runtime.getRuntime().availableProcessors();
+        return Math.min(4, Math.max(2, cores));
+    }
+
+    int resolvedWorkerThreads() {
+        if (workerThreads > 0) return workerThreads;
+        return resolvedIoThreads() * 8;
+    }
+}
@@ -36,6 +36,10 @@ function setBar(id, p) {
 }
 
 function update(d) {
+    if (d.warmingUp) {
+        statusEl.textContent = "预热中";
+        return;
+    }
     setText("cpuUsage", (d.cpuUsage * 100).toFixed(1) + "%");
     setText("loadAvg", (d.systemLoadAverage || []).map(v => v.toFixed(2)).join(" / "));
     setBar("cpuBar", d.cpuUsage * 100);